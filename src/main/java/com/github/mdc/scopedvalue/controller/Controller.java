@@ -1,6 +1,5 @@
 package com.github.mdc.scopedvalue.controller;
 
-import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.StructuredTaskScope;
 import java.util.function.Supplier;
@@ -52,11 +51,9 @@ public class Controller {
 		Response response = new Response();
 		MDC.put(THREAD_NAME_ATTRIBUTE_NAME, Thread.currentThread().getName());// set MDC 
 		
-		ScopedValueMdc.runWhere( () -> {
+		ScopedValueMdc.runWhere(REQUEST_ID_ATTRIBUTE_NAME, ScopedValueMdc.newScopeId(), () -> {// set MDC 
     		try (var scope = new StructuredTaskScope<>()) {
     			
-     			MDC.put(REQUEST_ID_ATTRIBUTE_NAME, UUID.randomUUID().toString());// set MDC 
-    			
     			Supplier<String> user = scope.fork(() -> {
     				logger.info("1");
     				return "OK";
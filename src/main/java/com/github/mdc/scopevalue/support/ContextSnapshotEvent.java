@@ -0,0 +1,62 @@
+package com.github.mdc.scopevalue.support;
+
+import java.util.Map;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event, emitted when {@link ScopedValueMdcAdapter} copies a MDC context,
+ * either when a scope is opened or when {@link ScopedValueMdcAdapter#getCopyOfContextMap()} is called.
+ * Only the entries actually copied are counted. A scope opened in the root context copies its values and deques.
+ * A scope opened in another scope copies the inherited values only: it shares the deques of the enclosing scope,
+ * and reads the {@link Inheritance#INHERIT_READ_ONLY read-only} values from it.
+ * Changes of a scope context are not copies and are not reported.
+ * The size and the bytes are only computed when the event is enabled.
+ */
+@Name(ContextSnapshotEvent.NAME)
+@Label("MDC Context Snapshot")
+@Description("Copy of a MDC context")
+@Category({"SLF4J", "MDC"})
+@Enabled(false)
+@StackTrace(false)
+final class ContextSnapshotEvent extends jdk.jfr.Event {
+
+	static final String NAME = "com.github.mdc.scopevalue.ContextSnapshot";
+
+	@Label("Size")
+	@Description("Number of the values and of the deque elements copied")
+	int size;
+
+	@Label("Bytes")
+	@Description("Estimated size of the keys and values copied, 2 bytes per character")
+	@DataAmount
+	long bytes;
+
+	void addValues(Map<String, String> values) {
+		values.forEach( (key, value) -> {
+			size++;
+			bytes += sizeOf(key) + sizeOf(value);
+		});
+	}
+
+	void addDeque(String key, Iterable<String> deque) {
+		bytes += sizeOf(key);
+		if (deque != null) {
+			for (String value : deque) {
+				size++;
+				bytes += sizeOf(value);
+			}
+		}
+	}
+
+	private static long sizeOf(String s) {
+		return s != null ? 2L * s.length() : 0;
+	}
+
+}
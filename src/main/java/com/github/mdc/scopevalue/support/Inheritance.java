@@ -0,0 +1,27 @@
+package com.github.mdc.scopevalue.support;
+
+/**
+ * Policy of inheriting a MDC context key by a scope, opened by {@link ScopedValueMdc#runWhere(Runnable)},
+ * from the context it is opened in.
+ * 
+ * @see ScopedValueMdc#setInheritance(String, Inheritance)
+ */
+public enum Inheritance {
+	
+	/** The key is copied into the scope and can be changed there, without affecting the enclosing context */
+	INHERIT,
+	
+	/** The key is not copied into the scope, though it can be set there anew */
+	DROP,
+	
+	/** 
+	 * The key is not copied into the scope, but read from the context the scope was opened in, 
+	 * that is, from the enclosing scope as it currently is, or from the root context as it was at scope entry. 
+	 * Its changes in the scope, including the ones by {@code clear()}, are ignored,
+	 * and {@code popByKey} of a read-only deque returns {@code null}, leaving the deque unchanged.
+	 * Values and deques are read-only independently, i.e. a read-only value does not make a deque of the same key read-only,
+	 * unless that deque is inherited too.
+	 */
+	INHERIT_READ_ONLY
+
+}
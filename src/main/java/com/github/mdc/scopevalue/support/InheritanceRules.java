@@ -0,0 +1,86 @@
+package com.github.mdc.scopevalue.support;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable set of {@link Inheritance} rules, applied by {@link ScopedValueMdcAdapter} to each key 
+ * of the MDC context, in which a scope is opened.
+ * A rule pattern is either an exact key, or a key prefix followed by {@code *}, a single {@code *} matching any key.
+ * An exact key rule takes precedence over the prefix ones, and the longest matching prefix wins.
+ * The keys, not matched by any rule, are {@link Inheritance#INHERIT inherited}.
+ * 
+ * <br/><br/>An exact key is resolved by a map lookup, and only the prefixes, which are few in practice, are matched one by one,
+ * longest first. Nothing is cached per key, since MDC keys may be dynamic and would grow such a cache without bound.
+ */
+final class InheritanceRules {
+
+	static final InheritanceRules INHERIT_ALL = new InheritanceRules(Collections.emptyMap(), Collections.emptyMap());
+	
+	private static final String WILDCARD = "*";
+
+	private final Map<String, Inheritance> keyRules;
+	private final Map<String, Inheritance> prefixRules;
+	
+	/** Keys of {@link #prefixRules}, longest first */
+	private final String[] prefixes;
+	
+	private final boolean inheritAll;
+	private final boolean readOnly;
+
+	private InheritanceRules(Map<String, Inheritance> keyRules, Map<String, Inheritance> prefixRules) {
+		this.keyRules = keyRules;
+		this.prefixRules = prefixRules;
+		this.prefixes = prefixRules.keySet().stream()
+				.sorted(Comparator.comparingInt(String::length).reversed())
+				.toArray(String[]::new);
+		this.inheritAll = keyRules.values().stream().allMatch(Inheritance.INHERIT::equals) 
+				&& prefixRules.values().stream().allMatch(Inheritance.INHERIT::equals);
+		this.readOnly = keyRules.containsValue(Inheritance.INHERIT_READ_ONLY) || prefixRules.containsValue(Inheritance.INHERIT_READ_ONLY);
+	}
+
+	/**
+	 * @return a copy of these rules with the rule for {@code pattern} added or replaced 
+	 */
+	InheritanceRules with(String pattern, Inheritance inheritance) {
+		final Map<String, Inheritance> keyRules = new HashMap<>(this.keyRules);
+		final Map<String, Inheritance> prefixRules = new HashMap<>(this.prefixRules);
+		if (pattern.endsWith(WILDCARD)) {
+			prefixRules.put(pattern.substring(0, pattern.length() - WILDCARD.length()), inheritance);
+		} else {
+			keyRules.put(pattern, inheritance);
+		}
+		return new InheritanceRules(keyRules, prefixRules);
+	}
+
+	/**
+	 * @return {@code true} if all the keys are {@link Inheritance#INHERIT inherited}, 
+	 * so that the rules need not be resolved at all
+	 */
+	boolean isInheritAll() {
+		return inheritAll;
+	}
+
+	/**
+	 * @return {@code true} if some keys may be {@link Inheritance#INHERIT_READ_ONLY inherited read-only}
+	 */
+	boolean hasReadOnly() {
+		return readOnly;
+	}
+
+	Inheritance resolve(String key) {
+		final Inheritance keyRule = keyRules.get(key);
+		if (keyRule != null) {
+			return keyRule;
+		}
+		for (String prefix : prefixes) {
+			if (key.startsWith(prefix)) {
+				return prefixRules.get(prefix);
+			}
+		}
+		return Inheritance.INHERIT;
+	}
+
+}
@@ -0,0 +1,31 @@
+package com.github.mdc.scopevalue.support;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event, emitted when {@link ScopedValueMdcAdapter} is accessed from a virtual thread 
+ * with no scope bound, so that it falls back to its {@code rootContext}, 
+ * typically a thread-local based {@link org.slf4j.spi.MDCAdapter MDCAdapter}.
+ * Unlike the other events of this package, it records the stack trace, which shows the code missing a scope.
+ */
+@Name(RootContextFallbackEvent.NAME)
+@Label("MDC Root Context Fallback")
+@Description("MDC accessed from a virtual thread outside of any scope")
+@Category({"SLF4J", "MDC"})
+@Enabled(false)
+final class RootContextFallbackEvent extends jdk.jfr.Event {
+
+	static final String NAME = "com.github.mdc.scopevalue.RootContextFallback";
+
+	static void emit() {
+		final RootContextFallbackEvent event = new RootContextFallbackEvent();
+		if (event.isEnabled()) {
+			event.commit();
+		}
+	}
+
+}
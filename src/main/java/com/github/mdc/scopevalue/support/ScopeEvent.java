@@ -0,0 +1,38 @@
+package com.github.mdc.scopevalue.support;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event, spanning a scope opened by {@link ScopedValueMdcAdapter#runWhere(String, String, Runnable)} 
+ * from the beginning of its context construction to its end.
+ * Like the other events of this package, it is disabled by default and has to be enabled by the JFR settings, 
+ * for example, by {@code mdc-scoped-value.jfc}.
+ */
+@Name(ScopeEvent.NAME)
+@Label("MDC Scope")
+@Description("Scope with its own MDC context, opened by ScopedValueMdc.runWhere")
+@Category({"SLF4J", "MDC"})
+@Enabled(false)
+@StackTrace(false)
+final class ScopeEvent extends jdk.jfr.Event {
+
+	static final String NAME = "com.github.mdc.scopevalue.Scope";
+
+	@Label("Depth")
+	@Description("Number of the scopes enclosing this one, plus one")
+	int depth;
+
+	@Label("Inherited Keys")
+	@Description("Number of the values and deques inherited from the enclosing context")
+	int inheritedKeys;
+
+	@Label("Sampled")
+	@Description("Whether the events of the scope are kept by the sampling filter")
+	boolean sampled;
+
+}
@@ -0,0 +1,61 @@
+package com.github.mdc.scopevalue.support;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free generator of the scope and span IDs, assigned by {@link ScopedValueMdcAdapter} when a scope is opened.
+ * Unlike {@link java.util.UUID#randomUUID()}, it does not go through {@link SecureRandom} per ID:
+ * the node ID is drawn at random once per JVM, and uniqueness within the node is guaranteed by an atomic counter.
+ * Since the node ID is random, the uniqueness across nodes is only probabilistic, unless each node is given 
+ * a distinct node ID by {@link #setNodeId(int)}.
+ *
+ * <br/><br/>A scope ID is time-ordered, similarly to ULID, and consists of 28 hex digits:
+ * 12 digits of the current time millis, 8 digits of the node ID and 8 digits of the counter.
+ * A span ID consists of 16 hex digits: 8 digits of the node ID and 8 digits of the counter, 
+ * so that the spans of a scope crossing nodes do not collide.
+ */
+final class ScopeIdGenerator {
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private static volatile int nodeId = new SecureRandom().nextInt();
+
+	private static final AtomicLong sequence = new AtomicLong();
+
+	private ScopeIdGenerator() {
+	}
+
+	static String nextScopeId() {
+		final char[] chars = new char[28];
+		appendHex(chars, 0, System.currentTimeMillis(), 12);
+		appendHex(chars, 12, nodeId, 8);
+		appendHex(chars, 20, sequence.getAndIncrement(), 8);
+		return new String(chars);
+	}
+
+	static String nextSpanId() {
+		final char[] chars = new char[16];
+		appendHex(chars, 0, nodeId, 8);
+		appendHex(chars, 8, sequence.getAndIncrement(), 8);
+		return new String(chars);
+	}
+
+	/**
+	 * Replaces the random node ID, for example, by an ID assigned to the node by a deployment
+	 */
+	static void setNodeId(int nodeId) {
+		ScopeIdGenerator.nodeId = nodeId;
+	}
+
+	/**
+	 * Writes {@code digits} lowest hex digits of {@code value} into {@code chars} starting from {@code offset}
+	 */
+	private static void appendHex(char[] chars, int offset, long value, int digits) {
+		for (int i = offset + digits - 1; i >= offset; i--) {
+			chars[i] = HEX_DIGITS[(int) (value & 0xF)];
+			value >>>= 4;
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.github.mdc.scopevalue.support;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A log sampling decision of a {@link ScopedValueMdcAdapter} scope.
+ * The decision is taken once, when the scope is opened by {@link ScopedValueMdcAdapter#runWhere(String, String, Runnable)},
+ * by hashing the value of the sampling key against the configured sampling rate.
+ * The same instance is then shared by all the subtasks forked in the scope and by nested scopes with the same sampling key value,
+ * so that {@link ScopedValueSamplingFilter} keeps or drops all their events together without hashing anything per event.
+ *
+ * <br/><br/>Sampled-out scopes still count the events dropped on their behalf, see {@link #getDroppedCount()}.
+ *
+ * @see ScopedValueSamplingFilter
+ */
+final class ScopeSampling {
+
+	/**
+	 * Decision of the scopes which are not subject to sampling,
+	 * i.e. when the sampling rate is 1 or the sampling key is not defined at scope entry.
+	 */
+	static final ScopeSampling ALWAYS = new ScopeSampling(true);
+
+	private static final long HASH_RANGE = 1L << 32;
+
+	private final boolean sampled;
+	private final LongAdder dropped = new LongAdder();
+
+	private ScopeSampling(boolean sampled) {
+		this.sampled = sampled;
+	}
+
+	/**
+	 * Deterministically decides whether a scope with sampling key value {@code value} is sampled in.
+	 * The same value always leads to the same decision for a given {@code rate}.
+	 *
+	 * @param value value of the sampling key, possibly {@code null}
+	 * @param rate share of the scopes to keep, from 0 to 1
+	 */
+	static ScopeSampling decide(String value, double rate) {
+		if (value == null || rate >= 1) {
+			return ALWAYS;
+		}
+		final long hash = mix(value.hashCode()) & 0xFFFFFFFFL;
+		return new ScopeSampling(hash < (long) (rate * HASH_RANGE));
+	}
+
+	/**
+	 * Finalization step of MurmurHash3, spreads {@link String#hashCode()} evenly over 32 bits.
+	 */
+	private static int mix(int h) {
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	boolean isSampled() {
+		return sampled;
+	}
+
+	void recordDropped() {
+		dropped.increment();
+	}
+
+	long getDroppedCount() {
+		return dropped.sum();
+	}
+
+}
@@ -23,15 +23,97 @@ package com.github.mdc.scopevalue.support;
  * {@link ScopedValueMdcAdapter}, defines other policies of interacting and overwriting of the MDC context values,
  * defined in a parent and forked threads. Please see {@link ScopedValueMdcAdapter} for details. 
  * 
+ * <br/><br/>Each scope carries a log sampling decision, taken once at scope entry, 
+ * which is shared by its forked subtasks and applied by {@link ScopedValueSamplingFilter}.
+ * 
+ * <br/><br/>Optionally, see {@link #setScopeIdKey(String)}, each scope is assigned a scope ID, inherited by nested scopes, 
+ * and a span ID under {@link #SPAN_ID_KEY}, nested scopes referring to the enclosing one under {@link #PARENT_SPAN_ID_KEY}.
+ * Subtasks, forked without opening a nested scope, share the span of the enclosing scope.
+ * 
+ * <br/><br/>By default a scope inherits all the keys of the context it is opened in. 
+ * To reduce the cost of a scope entry, this can be restricted per key or key prefix by {@link #setInheritance(String, Inheritance)}.
+ * 
  * @see ScopedValueMdcAdapter
  */
 public abstract class ScopedValueMdc {
 	
+	/** MDC key of the span ID, assigned to each scope when the scope ID generation is enabled */
+	public static final String SPAN_ID_KEY = "spanId";
+	
+	/** MDC key of the span ID of the enclosing scope, assigned to nested scopes when the scope ID generation is enabled */
+	public static final String PARENT_SPAN_ID_KEY = "parentSpanId";
+	
 	private ScopedValueMdc() {
 	}
 	
 	public static void runWhere(Runnable op) {
 		ScopedValueMdcAdapter.runWhere(op);
 	}
+	
+	/**
+	 * Same as {@link #runWhere(Runnable)}, but the MDC context value of {@code key} is set to {@code value}
+	 * at scope entry, so that, when {@code key} is the sampling key, it decides whether the scope is sampled in.
+	 * 
+	 * @see ScopedValueSamplingFilter
+	 */
+	public static void runWhere(String key, String value, Runnable op) {
+		ScopedValueMdcAdapter.runWhere(key, value, op);
+	}
+	
+	/**
+	 * Sets {@link Inheritance} of the keys matching {@code pattern} by the scopes opened afterwards.
+	 * The pattern is either an exact key, or a key prefix followed by {@code *}. 
+	 * An exact key rule takes precedence over the prefix ones, and the longest matching prefix wins.
+	 */
+	public static void setInheritance(String pattern, Inheritance inheritance) {
+		ScopedValueMdcAdapter.getInstance().setInheritance(pattern, inheritance);
+	}
+	
+	/**
+	 * Removes all the rules set by {@link #setInheritance(String, Inheritance)}, so that the scopes inherit all the keys
+	 */
+	public static void resetInheritance() {
+		ScopedValueMdcAdapter.getInstance().resetInheritance();
+	}
+	
+	/**
+	 * Enables generation of the scope ID under {@code scopeIdKey} and of the span IDs at scope entry,
+	 * or disables it if {@code scopeIdKey} is {@code null}. It affects only the scopes opened afterwards.
+	 */
+	public static void setScopeIdKey(String scopeIdKey) {
+		ScopedValueMdcAdapter.getInstance().setScopeIdKey(scopeIdKey);
+	}
+	
+	/**
+	 * @return a new time-ordered ID, unique per node, generated without locks and without {@link java.security.SecureRandom}
+	 */
+	public static String newScopeId() {
+		return ScopeIdGenerator.nextScopeId();
+	}
+	
+	/**
+	 * Sets the share of the scopes, from 0 to 1, which events are kept by {@link ScopedValueSamplingFilter}.
+	 * It affects only the scopes opened afterwards.
+	 */
+	public static void setSamplingRate(double samplingRate) {
+		ScopedValueMdcAdapter.getInstance().setSamplingRate(samplingRate);
+	}
+	
+	/**
+	 * @return {@code false} if the events of the current scope are dropped by {@link ScopedValueSamplingFilter}, 
+	 * {@code true} otherwise, including when called outside of any scope
+	 */
+	public static boolean isSampled() {
+		final ScopeSampling sampling = ScopedValueMdcAdapter.getCurrentSampling();
+		return sampling == null || sampling.isSampled();
+	}
+	
+	/**
+	 * @return number of the events of the current scope dropped by {@link ScopedValueSamplingFilter}
+	 */
+	public static long getDroppedEventCount() {
+		final ScopeSampling sampling = ScopedValueMdcAdapter.getCurrentSampling();
+		return sampling != null ? sampling.getDroppedCount() : 0;
+	}
 
 }
@@ -3,10 +3,15 @@ package com.github.mdc.scopevalue.support;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
 import org.slf4j.MDC;
 import org.slf4j.spi.MDCAdapter;
@@ -32,6 +37,9 @@ import ch.qos.logback.classic.util.LogbackMDCAdapter;
  * <br/><br/>This {@link MDCAdapter} has to be registered by a {@link org.slf4j.spi.SLF4JServiceProvider SLF4JServiceProvider},
  * for example, by {@link ScopedValueServiceProvider}. 
  * 
+ * <br/><br/>The adapter emits Java Flight Recorder events {@link ScopeEvent}, {@link ContextSnapshotEvent} 
+ * and {@link RootContextFallbackEvent}, which are disabled by default. 
+ * 
  * @see java.util.concurrent.StructuredTaskScope StructuredTaskScope
  * @see java.lang.ScopedValue ScopedValue
  * @see java.lang.ScopedValue.Carrier ScopedValue.Carrier
@@ -40,50 +48,251 @@ import ch.qos.logback.classic.util.LogbackMDCAdapter;
  */
 class ScopedValueMdcAdapter implements MDCAdapter {
 	
+	static final String DEFAULT_SAMPLING_KEY = "requestId";
+	
 	/**
 	 * An implementation of {@link MDCAdapter} which stores MDC context 
 	 * in fields {@link #values} and {@link #deques}.
+	 * Both are concurrent, so that subtasks, forked in the scope without opening a nested one, may change the context concurrently,
+	 * each change being a single map operation or a compare-and-set of a deque head. A nested scope, opened by a forked subtask, 
+	 * copies the values while the enclosing scope may keep changing them, the copy at scope entry being the only one, 
+	 * and shares the deques, which are immutable {@link DequeNode} stacks.
+	 * Since concurrent maps do not hold {@code null}, putting a {@code null} value removes the key.
 	 * Upon constructing it copies the MDC context from current {@link MDCAdapter},
-	 * which is expected to be of type {@link ScopedValueMdcAdapter}.
+	 * which is expected to be of type {@link ScopedValueMdcAdapter}, according to its {@link InheritanceRules}, optionally assigns the scope and span IDs 
+	 * and takes the {@link ScopeSampling} decision of the scope.
 	 */
 	private static class SubtaskContext implements MDCAdapter {
 		
-		private final Map<String, String> values = new HashMap<>();
-		private final Map<String, Deque<String>> deques = new HashMap<>();
+		private final Map<String, String> values = new ConcurrentHashMap<>();
+		private final Map<String, AtomicReference<DequeNode>> deques = new ConcurrentHashMap<>();
+		private final ScopeSampling sampling;
+		
+		/** Number of the scopes enclosing this one, plus one */
+		private final int depth;
+		
+		/** Number of the values and deques inherited from the enclosing context, reported by {@link ScopeEvent} */
+		private int inheritedKeys;
+		
+		/** {@link InheritanceRules} in force when this scope was opened */
+		private InheritanceRules inheritanceRules = InheritanceRules.INHERIT_ALL;
+		
+		/** 
+		 * The enclosing scope or, for a scope opened in the root context, the values and deques copied from it.
+		 * They are shared by reference, rather than copied, to read the {@link Inheritance#INHERIT_READ_ONLY read-only} keys from,
+		 * and are only set if there are read-only rules.
+		 */
+		private SubtaskContext enclosing;
+		private Map<String, String> enclosingValues = Collections.emptyMap();
+		private Map<String, AtomicReference<DequeNode>> enclosingDeques = Collections.emptyMap();
 		
 		public SubtaskContext() {
-			copyFromRoot();
+			this(null, null);
+		}
+
+		/**
+		 * @param key optional key, put into this context before the sampling decision is taken
+		 * @param value value of {@code key}
+		 */
+		public SubtaskContext(String key, String value) {
+			final ScopedValueMdcAdapter scopedValueMdcAdapter = getInstance();
+			depth = SUBTASK_CONTEXT.isBound() ? SUBTASK_CONTEXT.get().depth + 1 : 1;
+			copyFromRoot(scopedValueMdcAdapter);
+			if (key != null && value != null) {
+				values.put(key, value);
+			}
+			if (scopedValueMdcAdapter.scopeIdKey != null) {
+				assignScopeIds(scopedValueMdcAdapter);
+			}
+			sampling = decideSampling(scopedValueMdcAdapter);
 		}
 
-		private void copyFromRoot() throws InternalError {
-			values.putAll(MDC.getCopyOfContextMap());
-			final MDCAdapter mdcAdapter = MDC.getMDCAdapter();
-			if (!(mdcAdapter instanceof ScopedValueMdcAdapter)) {
-				throw new IllegalStateException("MDC Adapter supposed to be of type " + ScopedValueMdcAdapter.class.getSimpleName() +
-						", actual type is " + (mdcAdapter != null ? mdcAdapter.getClass().getSimpleName() : "<null>"));
+		private void copyFromRoot(ScopedValueMdcAdapter scopedValueMdcAdapter) {
+			final ContextSnapshotEvent event = new ContextSnapshotEvent();
+			event.begin();
+			inheritanceRules = scopedValueMdcAdapter.inheritanceRules;
+			// opening a scope from the root context is the normal entry path, not a fallback to be reported
+			final MDCAdapter currentContext = SUBTASK_CONTEXT.isBound() ? SUBTASK_CONTEXT.get() : scopedValueMdcAdapter.rootContext;
+			final Map<String, String> currentValues;
+			final Map<String, AtomicReference<DequeNode>> currentDeques;
+			if (currentContext instanceof SubtaskContext parent) {
+				// the maps of the enclosing scope are concurrent, so they can be copied while the enclosing scope keeps changing them;
+				// its read-only keys are part of its context, even if the rules have changed since it was opened
+				currentValues = parent.getCopyOfContextMap();
+				currentDeques = parent.getDeques();
+			} else {
+				final Map<String, String> contextMap = currentContext.getCopyOfContextMap();
+				currentValues = contextMap != null ? contextMap : Collections.emptyMap();
+				final Map<String, AtomicReference<DequeNode>> rootDeques = new HashMap<>();
+				scopedValueMdcAdapter.dequeKeys.stream().forEach( (key) -> {
+					if (inheritanceRules.isInheritAll() || inheritanceRules.resolve(key) != Inheritance.DROP) {
+						final Deque<String> deque = currentContext.getCopyOfDequeByKey(key);
+						if (deque != null) {
+							rootDeques.put(key, new AtomicReference<>(DequeNode.of(deque)));
+						}
+					}
+				});
+				currentDeques = rootDeques;
+			}
+			inherit(currentValues, values, UnaryOperator.identity());
+			inherit(currentDeques, deques, (deque) -> new AtomicReference<>(deque.get()));
+			if (inheritanceRules.hasReadOnly()) {
+				if (currentContext instanceof SubtaskContext parent) {
+					enclosing = parent;
+				} else {
+					enclosingValues = currentValues;
+					enclosingDeques = currentDeques;
+				}
+			}
+			event.end();
+			if (event.shouldCommit()) {
+				if (currentContext instanceof SubtaskContext) {
+					// the deques of the enclosing scope are shared and the read-only values are read from it, neither is copied
+					event.addValues(values);
+				} else {
+					// the root context is copied as a whole, before the inheritance rules are applied
+					event.addValues(currentValues);
+					currentDeques.forEach( (key, deque) -> event.addDeque(key, deque.get()));
+				}
+				event.commit();
 			}
-			final ScopedValueMdcAdapter scopedValueMdcAdapter = (ScopedValueMdcAdapter) mdcAdapter;
-			scopedValueMdcAdapter.dequeKeys.stream().forEach( (key) -> {
-				final Deque<String> deque = scopedValueMdcAdapter.getCopyOfDequeByKey(key);
-				if (deque != null) {
-					deques.put(key, deque);
+		}
+		
+		/**
+		 * Copies the {@link Inheritance#INHERIT inherited} entries of {@code map} into {@code target},
+		 * counting them and the {@link Inheritance#INHERIT_READ_ONLY read-only} ones in {@link #inheritedKeys}.
+		 * {@code null} values and empty deques are skipped.
+		 */
+		private <V> void inherit(Map<String, V> map, Map<String, V> target, UnaryOperator<V> copy) {
+			map.forEach( (key, value) -> {
+				if (value == null || value instanceof AtomicReference<?> deque && deque.get() == null) {
+					return;
+				}
+				switch (inheritanceRules.isInheritAll() ? Inheritance.INHERIT : inheritanceRules.resolve(key)) {
+				case INHERIT:
+					target.put(key, copy.apply(value));
+					inheritedKeys++;
+					break;
+				case INHERIT_READ_ONLY:
+					inheritedKeys++;
+					break;
+				default:
 				}
 			});
 		}
+		
+		/**
+		 * @return value of {@code key} if it is inherited read-only, {@code null} otherwise
+		 */
+		private String getReadOnlyValue(String key) {
+			if (inheritanceRules.hasReadOnly() && inheritanceRules.resolve(key) == Inheritance.INHERIT_READ_ONLY) {
+				return enclosing != null ? enclosing.get(key) : enclosingValues.get(key);
+			}
+			return null;
+		}
+		
+		/**
+		 * @return deque of {@code key} if it is inherited read-only, {@code null} otherwise
+		 */
+		private DequeNode getReadOnlyDeque(String key) {
+			if (inheritanceRules.hasReadOnly() && inheritanceRules.resolve(key) == Inheritance.INHERIT_READ_ONLY) {
+				if (enclosing != null) {
+					return enclosing.getDeque(key);
+				}
+				final AtomicReference<DequeNode> deque = enclosingDeques.get(key);
+				return deque != null ? deque.get() : null;
+			}
+			return null;
+		}
+		
+		/**
+		 * @return head of the deque of {@code key}, either of this scope or inherited read-only, {@code null} if it is empty
+		 */
+		private DequeNode getDeque(String key) {
+			final AtomicReference<DequeNode> deque = deques.get(key);
+			final DequeNode head = deque != null ? deque.get() : null;
+			return head != null ? head : getReadOnlyDeque(key);
+		}
+		
+		/**
+		 * @return deques of this scope including the read-only ones, to be inherited by a nested scope
+		 */
+		private Map<String, AtomicReference<DequeNode>> getDeques() {
+			if (!inheritanceRules.hasReadOnly()) {
+				return deques;
+			}
+			final Map<String, AtomicReference<DequeNode>> allDeques = new HashMap<>(deques);
+			(enclosing != null ? enclosing.getDeques() : enclosingDeques).forEach( (key, deque) -> {
+				if (inheritanceRules.resolve(key) == Inheritance.INHERIT_READ_ONLY) {
+					allDeques.putIfAbsent(key, deque);
+				}
+			});
+			return allDeques;
+		}
+		
+		/**
+		 * Keeps the scope ID inherited from the enclosing scope or given explicitly, generating it otherwise,
+		 * and assigns a new span ID, the span ID of the enclosing scope becoming the parent span ID.
+		 * The span IDs are taken from the enclosing context directly, so that {@link Inheritance} rules do not break the span chain.
+		 */
+		private void assignScopeIds(ScopedValueMdcAdapter scopedValueMdcAdapter) {
+			final String scopeIdKey = scopedValueMdcAdapter.scopeIdKey;
+			// the scope ID may be inherited read-only, i.e. not stored in this scope
+			if (get(scopeIdKey) == null) {
+				values.put(scopeIdKey, ScopeIdGenerator.nextScopeId());
+			}
+			final String parentSpanId = SUBTASK_CONTEXT.isBound() ? SUBTASK_CONTEXT.get().get(ScopedValueMdc.SPAN_ID_KEY) 
+					: scopedValueMdcAdapter.rootContext.get(ScopedValueMdc.SPAN_ID_KEY);
+			values.put(ScopedValueMdc.SPAN_ID_KEY, ScopeIdGenerator.nextSpanId());
+			if (parentSpanId != null) {
+				values.put(ScopedValueMdc.PARENT_SPAN_ID_KEY, parentSpanId);
+			} else {
+				values.remove(ScopedValueMdc.PARENT_SPAN_ID_KEY);
+			}
+		}
+		
+		/**
+		 * Reuses the decision of the enclosing scope if the sampling key value has not changed or is not defined,
+		 * for example, because an {@link Inheritance} rule drops it, so that nested scopes of the same request 
+		 * share the decision and the dropped events count.
+		 */
+		private ScopeSampling decideSampling(ScopedValueMdcAdapter scopedValueMdcAdapter) {
+			final String samplingKey = scopedValueMdcAdapter.samplingKey;
+			final String samplingValue = get(samplingKey);
+			if (SUBTASK_CONTEXT.isBound()) {
+				final SubtaskContext parent = SUBTASK_CONTEXT.get();
+				if (samplingValue == null || Objects.equals(parent.get(samplingKey), samplingValue)) {
+					return parent.sampling;
+				}
+			}
+			return ScopeSampling.decide(samplingValue, scopedValueMdcAdapter.samplingRate);
+		}
 
 		public void put(String key, String val) {
-			values.put(key, val);
+			if (getReadOnlyValue(key) == null) {
+				if (val != null) {
+					values.put(key, val);
+				} else {
+					values.remove(key);
+				}
+			}
 		}
 
 		public String get(String key) {
-			return values.get(key);
+			final String value = values.get(key);
+			return value != null ? value : getReadOnlyValue(key);
 		}
 
 		@Override
 		public void remove(String key) {
-			values.remove(key);
+			if (getReadOnlyValue(key) == null) {
+				values.remove(key);
+			}
 		}
 
+		/**
+		 * Clears all the values, except the read-only ones, which are not stored in {@link #values}
+		 */
 		@Override
 		public void clear() {
 			values.clear();
@@ -91,37 +300,109 @@ class ScopedValueMdcAdapter implements MDCAdapter {
 
 		@Override
 		public Map<String, String> getCopyOfContextMap() {
-			return Collections.unmodifiableMap(values);
+			if (!inheritanceRules.hasReadOnly()) {
+				return Collections.unmodifiableMap(values);
+			}
+			final Map<String, String> contextMap = new HashMap<>(values);
+			(enclosing != null ? enclosing.getCopyOfContextMap() : enclosingValues).forEach( (key, value) -> {
+				if (inheritanceRules.resolve(key) == Inheritance.INHERIT_READ_ONLY) {
+					contextMap.putIfAbsent(key, value);
+				}
+			});
+			return Collections.unmodifiableMap(contextMap);
 		}
 
 		@Override
 		public void setContextMap(Map<String, String> contextMap) {
 			values.clear();
-			values.putAll(contextMap);
+			contextMap.forEach(this::put);
 		}
 
 		@Override
 		public void pushByKey(String key, String value) {
-			getDequeByKey(key).push(value);
+			if (getReadOnlyDeque(key) == null) {
+				deques.computeIfAbsent(key, (k) -> new AtomicReference<>()).updateAndGet( (head) -> new DequeNode(value, head));
+			}
 		}
 
+		/**
+		 * @return the head of the deque of {@code key}, removing it, 
+		 * or {@code null} if the deque is empty or is inherited read-only, leaving the read-only deque unchanged
+		 */
 		@Override
 		public String popByKey(String key) {
-			return getDequeByKey(key).pollFirst();
+			final AtomicReference<DequeNode> deque = deques.get(key);
+			if (deque == null) {
+				return null;
+			}
+			while (true) {
+				final DequeNode head = deque.get();
+				if (head == null) {
+					return null;
+				}
+				if (deque.compareAndSet(head, head.next())) {
+					return head.value();
+				}
+			}
 		}
 
 		@Override
 		public Deque<String> getCopyOfDequeByKey(String key) {
-			return new LinkedList<>(getDequeByKey(key));
+			final DequeNode head = getDeque(key);
+			final Deque<String> copy = new LinkedList<>();
+			if (head != null) {
+				head.forEach(copy::add);
+			}
+			return copy;
 		}
 
 		@Override
 		public void clearDequeByKey(String key) {
-			getDequeByKey(key).clear();
+			final AtomicReference<DequeNode> deque = deques.get(key);
+			if (deque != null) {
+				deque.set(null);
+			}
 		}
+	}
+	
+	/**
+	 * An immutable node of a MDC context deque, which is a stack linked from its head, {@code null} being the empty deque.
+	 * Pushing and popping replace the head only, so that a deque is shared by a nested scope without copying its elements.
+	 */
+	private record DequeNode(String value, DequeNode next) implements Iterable<String> {
 		
-		private Deque<String> getDequeByKey(String key) {
-			return deques.computeIfAbsent(key, (k) -> new LinkedList<>());
+		/**
+		 * @return the head of a stack holding the elements of {@code deque} in the same order, {@code null} if it is empty
+		 */
+		static DequeNode of(Deque<String> deque) {
+			DequeNode head = null;
+			for (Iterator<String> i = deque.descendingIterator(); i.hasNext();) {
+				head = new DequeNode(i.next(), head);
+			}
+			return head;
+		}
+
+		@Override
+		public Iterator<String> iterator() {
+			return new Iterator<>() {
+				
+				private DequeNode node = DequeNode.this;
+
+				@Override
+				public boolean hasNext() {
+					return node != null;
+				}
+
+				@Override
+				public String next() {
+					if (node == null) {
+						throw new NoSuchElementException();
+					}
+					final String value = node.value;
+					node = node.next;
+					return value;
+				}
+			};
 		}
 	}
 	
@@ -136,7 +417,51 @@ class ScopedValueMdcAdapter implements MDCAdapter {
 	 * It is a convenient wrapper over @link ScopedValue#runWhere(ScopedValue, Object, Runnable)} method.
 	 */
 	static void runWhere(Runnable op) {
-		ScopedValue.runWhere(SUBTASK_CONTEXT, new SubtaskContext(), op);
+		runWhere(null, null, op);
+	}
+	
+	/**
+	 * Same as {@link #runWhere(Runnable)}, but the MDC context of the operation {@code op}
+	 * additionally contains {@code key} with {@code value} from the very beginning, 
+	 * so that it takes part in the {@link ScopeSampling} decision of the scope.
+	 * The scope is reported by {@link ScopeEvent}, if enabled.
+	 */
+	static void runWhere(String key, String value, Runnable op) {
+		final ScopeEvent event = new ScopeEvent();
+		event.begin();
+		final SubtaskContext subtaskContext = new SubtaskContext(key, value);
+		try {
+			ScopedValue.runWhere(SUBTASK_CONTEXT, subtaskContext, op);
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.depth = subtaskContext.depth;
+				event.inheritedKeys = subtaskContext.inheritedKeys;
+				event.sampled = subtaskContext.sampling.isSampled();
+				event.commit();
+			}
+		}
+	}
+	
+	/**
+	 * @return {@link ScopeSampling} decision of the current scope, 
+	 * or {@code null} if {@link #SUBTASK_CONTEXT} is not bound to current thread
+	 */
+	static ScopeSampling getCurrentSampling() {
+		return SUBTASK_CONTEXT.isBound() ? SUBTASK_CONTEXT.get().sampling : null;
+	}
+	
+	/**
+	 * @return current {@link MDCAdapter}, which is expected to be of type {@link ScopedValueMdcAdapter}
+	 * @throws IllegalStateException if the current {@link MDCAdapter} is of a different type
+	 */
+	static ScopedValueMdcAdapter getInstance() {
+		final MDCAdapter mdcAdapter = MDC.getMDCAdapter();
+		if (!(mdcAdapter instanceof ScopedValueMdcAdapter)) {
+			throw new IllegalStateException("MDC Adapter supposed to be of type " + ScopedValueMdcAdapter.class.getSimpleName() +
+					", actual type is " + (mdcAdapter != null ? mdcAdapter.getClass().getSimpleName() : "<null>"));
+		}
+		return (ScopedValueMdcAdapter) mdcAdapter;
 	}
 	
 	/**
@@ -144,10 +469,24 @@ class ScopedValueMdcAdapter implements MDCAdapter {
 	 */
 	private MDCAdapter rootContext = new LogbackMDCAdapter();
 	
-	/** {@link Deque} keys stored by {@link #pushByKey(String, String)} method. 
-	 * They will later be used to retrieve context values saved in {@link Deque}s
+	/** {@link Deque} keys stored by {@link #pushByKey(String, String)} method into {@link #rootContext}. 
+	 * They will later be used to retrieve context values saved in {@link Deque}s, 
+	 * since {@link MDCAdapter} does not expose its {@link Deque} keys.
+	 * The set is shared by all the threads, hence concurrent. 
 	 */
-	private final Set<String> dequeKeys = new HashSet<>();
+	private final Set<String> dequeKeys = ConcurrentHashMap.newKeySet();
+	
+	/** MDC key which value decides whether a scope is sampled in, see {@link ScopeSampling} */
+	private volatile String samplingKey = DEFAULT_SAMPLING_KEY;
+	
+	/** Share of the scopes, which events are kept by {@link ScopedValueSamplingFilter}, from 0 to 1 */
+	private volatile double samplingRate = 1;
+	
+	/** Rules of inheriting the MDC context keys by a scope from the context it is opened in */
+	private volatile InheritanceRules inheritanceRules = InheritanceRules.INHERIT_ALL;
+	
+	/** MDC key of the scope ID generated by {@link ScopeIdGenerator} at scope entry, {@code null} if the generation is disabled */
+	private volatile String scopeIdKey;
 
 	@Override
 	public void put(String key, String val) {
@@ -171,11 +510,18 @@ class ScopedValueMdcAdapter implements MDCAdapter {
 
 	@Override
 	public Map<String, String> getCopyOfContextMap() {
+		final ContextSnapshotEvent event = new ContextSnapshotEvent();
+		event.begin();
 		final Map<String, String> contextMap = new HashMap<>();
 		final Map<String, String> copyOfContextMap = getCurrentContext().getCopyOfContextMap();
 		if (copyOfContextMap != null) {
 			contextMap.putAll(copyOfContextMap);
 		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.addValues(contextMap);
+			event.commit();
+		}
 		return Collections.unmodifiableMap(contextMap);
 	}
 
@@ -186,8 +532,11 @@ class ScopedValueMdcAdapter implements MDCAdapter {
 
 	@Override
 	public void pushByKey(String key, String value) {
-		dequeKeys.add(key);
-		getCurrentContext().pushByKey(key, value);
+		final MDCAdapter currentContext = getCurrentContext();
+		if (currentContext == rootContext && !dequeKeys.contains(key)) {
+			dequeKeys.add(key);
+		}
+		currentContext.pushByKey(key, value);
 	}
 
 	@Override
@@ -206,7 +555,13 @@ class ScopedValueMdcAdapter implements MDCAdapter {
 	}
 	
 	private MDCAdapter getCurrentContext() {
-		return SUBTASK_CONTEXT.isBound() ? SUBTASK_CONTEXT.get() : rootContext;
+		if (SUBTASK_CONTEXT.isBound()) {
+			return SUBTASK_CONTEXT.get();
+		}
+		if (Thread.currentThread().isVirtual()) {
+			RootContextFallbackEvent.emit();
+		}
+		return rootContext;
 	}
 
 	public MDCAdapter getRootContext() {
@@ -216,5 +571,46 @@ class ScopedValueMdcAdapter implements MDCAdapter {
 	public void setRootContext(MDCAdapter rootContext) {
 		this.rootContext = rootContext;
 	}
+
+	public String getSamplingKey() {
+		return samplingKey;
+	}
+
+	public void setSamplingKey(String samplingKey) {
+		this.samplingKey = samplingKey;
+	}
+
+	/**
+	 * Sets {@link Inheritance} of the keys matching {@code pattern}, see {@link InheritanceRules} for the pattern syntax
+	 */
+	public synchronized void setInheritance(String pattern, Inheritance inheritance) {
+		inheritanceRules = inheritanceRules.with(pattern, inheritance);
+	}
+	
+	/**
+	 * Removes all the {@link Inheritance} rules, so that all the keys are inherited
+	 */
+	public synchronized void resetInheritance() {
+		inheritanceRules = InheritanceRules.INHERIT_ALL;
+	}
+
+	public String getScopeIdKey() {
+		return scopeIdKey;
+	}
+
+	public void setScopeIdKey(String scopeIdKey) {
+		this.scopeIdKey = scopeIdKey;
+	}
+
+	public double getSamplingRate() {
+		return samplingRate;
+	}
+
+	public void setSamplingRate(double samplingRate) {
+		if (samplingRate < 0 || samplingRate > 1) {
+			throw new IllegalArgumentException("Sampling rate supposed to be between 0 and 1, actual value is " + samplingRate);
+		}
+		this.samplingRate = samplingRate;
+	}
 	
 }
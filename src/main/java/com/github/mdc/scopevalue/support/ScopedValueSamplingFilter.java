@@ -0,0 +1,71 @@
+package com.github.mdc.scopevalue.support;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * A {@link TurboFilter} which drops the events of the {@link ScopedValueMdc} scopes sampled out by their {@link ScopeSampling} decision.
+ * The decision is taken once at scope entry, so this filter only reads it from the bound scope and does no per-event hashing.
+ * Only the events with a level not greater than {@link #setLevel(String) level}, {@code INFO} by default, are dropped;
+ * the events logged outside of any scope are never dropped.
+ * A typical configuration in {@code logback.xml} looks like the following:
+ * {@snippet lang=xml :
+ * 		<turboFilter class="com.github.mdc.scopevalue.support.ScopedValueSamplingFilter">
+ * 			<level>INFO</level>
+ * 		</turboFilter>
+ * }
+ *
+ * The sampling rate and the sampling key are properties of {@link ScopedValueMdcAdapter},
+ * configured by {@link ScopedValueServiceProvider}.
+ *
+ * <br/><br/>The events dropped are counted both per scope, see {@link ScopedValueMdc#getDroppedEventCount()},
+ * and in total, see {@link #getDroppedCount()}.
+ *
+ * @see ScopeSampling
+ * @see ScopedValueServiceProvider
+ */
+public class ScopedValueSamplingFilter extends TurboFilter {
+
+	private static final LongAdder totalDropped = new LongAdder();
+
+	private Level level = Level.INFO;
+
+	@Override
+	public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+		if (level.toInt() > this.level.toInt()) {
+			return FilterReply.NEUTRAL;
+		}
+		final ScopeSampling sampling = ScopedValueMdcAdapter.getCurrentSampling();
+		if (sampling == null || sampling.isSampled()) {
+			return FilterReply.NEUTRAL;
+		}
+		// isXxxEnabled() checks come with no format and must not be counted
+		if ((format != null || t != null) && level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+			sampling.recordDropped();
+			totalDropped.increment();
+		}
+		return FilterReply.DENY;
+	}
+
+	public String getLevel() {
+		return level.toString();
+	}
+
+	public void setLevel(String level) {
+		this.level = Level.toLevel(level, Level.INFO);
+	}
+
+	/**
+	 * @return total number of the events dropped by all the instances of this filter
+	 */
+	public static long getDroppedCount() {
+		return totalDropped.sum();
+	}
+
+}
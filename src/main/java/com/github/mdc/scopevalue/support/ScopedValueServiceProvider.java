@@ -33,6 +33,15 @@ import ch.qos.logback.core.util.StatusPrinter;
  * If not then it tries by the means of {@link ServiceLoader} to find any existing {@link SLF4JServiceProvider}, 
  * different from this one, and if found, retrieves an instance of {@link MDCAdapter} from it.
  * 
+ * <br/><br/>The log sampling of {@link ScopedValueMdcAdapter} is configured by system properties 
+ * {@link #SAMPLING_RATE_PROPERTY_KEY}, a share of the scopes to keep from 0 to 1, 1 by default, 
+ * and {@link #SAMPLING_KEY_PROPERTY_KEY}, a MDC key which value is hashed at scope entry, {@code requestId} by default.
+ * If system property {@link #SCOPE_ID_KEY_PROPERTY_KEY} is defined, scope and span IDs are generated at scope entry, 
+ * the scope ID being stored under the MDC key it denotes. The node ID, included into the generated IDs, is random,
+ * unless it is defined by system property {@link #NODE_ID_PROPERTY_KEY} as up to 8 hex digits.
+ * System property {@link #INHERITANCE_PROPERTY_KEY} defines {@link Inheritance} rules of the scopes as a comma-separated list of
+ * {@code pattern=policy} pairs, for example, {@code -Dscoped.value.inheritance=trace.*=drop,tenant=inherit_read_only}.
+ * 
  * <br/><br/>Due to restrictions, imposed by superclass {@link LogbackServiceProvider}, 
  * most of the class' methods copy-pasted from there. 
  * This, in turn, limits the portability and maintainability of the class.   
@@ -40,6 +49,11 @@ import ch.qos.logback.core.util.StatusPrinter;
 public class ScopedValueServiceProvider extends LogbackServiceProvider {
 	
     private static final String ROOT_MDC_CONTEXT_PROPERTY_KEY = "scoped.value.root.mdc.context";
+    private static final String SAMPLING_KEY_PROPERTY_KEY = "scoped.value.sampling.key";
+    private static final String SAMPLING_RATE_PROPERTY_KEY = "scoped.value.sampling.rate";
+    private static final String SCOPE_ID_KEY_PROPERTY_KEY = "scoped.value.scope.id.key";
+    private static final String NODE_ID_PROPERTY_KEY = "scoped.value.node.id";
+    private static final String INHERITANCE_PROPERTY_KEY = "scoped.value.inheritance";
 
 	private final ScopedValueMdcAdapter mdcAdapter = new ScopedValueMdcAdapter();
 
@@ -77,6 +91,9 @@ public class ScopedValueServiceProvider extends LogbackServiceProvider {
         initializeLoggerContext();
         defaultLoggerContext.start();
         loadRootMdcAdapter().ifPresent( (rootMdcAdapter) -> mdcAdapter.setRootContext(rootMdcAdapter));
+        configureSampling();
+        configureScopeId();
+        configureInheritance();
         // set the MDCAdapter for the defaultLoggerContext immediately
         defaultLoggerContext.setMDCAdapter(mdcAdapter);
     }
@@ -98,6 +115,55 @@ public class ScopedValueServiceProvider extends LogbackServiceProvider {
 		} );
 	}
 	
+	private void configureSampling() {
+		final String samplingKey = System.getProperty(SAMPLING_KEY_PROPERTY_KEY);
+		if (samplingKey != null && !samplingKey.isEmpty()) {
+			mdcAdapter.setSamplingKey(samplingKey);
+		}
+		final String samplingRate = System.getProperty(SAMPLING_RATE_PROPERTY_KEY);
+		if (samplingRate != null && !samplingRate.isEmpty()) {
+			try {
+				mdcAdapter.setSamplingRate(Double.parseDouble(samplingRate));
+			} catch (IllegalArgumentException e) {
+				Reporter.error(String.format("Failed to set sampling rate \"%s\" specified via \"%s\" system property", samplingRate, SAMPLING_RATE_PROPERTY_KEY), e);
+			}
+		}
+	}
+	
+	private void configureScopeId() {
+		final String scopeIdKey = System.getProperty(SCOPE_ID_KEY_PROPERTY_KEY);
+		if (scopeIdKey != null && !scopeIdKey.isEmpty()) {
+			mdcAdapter.setScopeIdKey(scopeIdKey);
+		}
+		final String nodeId = System.getProperty(NODE_ID_PROPERTY_KEY);
+		if (nodeId != null && !nodeId.isEmpty()) {
+			try {
+				ScopeIdGenerator.setNodeId(Integer.parseUnsignedInt(nodeId, 16));
+			} catch (NumberFormatException e) {
+				Reporter.error(String.format("Failed to set node ID \"%s\" specified via \"%s\" system property", nodeId, NODE_ID_PROPERTY_KEY), e);
+			}
+		}
+	}
+	
+	private void configureInheritance() {
+		final String inheritance = System.getProperty(INHERITANCE_PROPERTY_KEY);
+		if (inheritance == null || inheritance.isEmpty()) {
+			return;
+		}
+		for (String rule : inheritance.split(",")) {
+			final int separator = rule.lastIndexOf('=');
+			try {
+				if (separator < 0) {
+					throw new IllegalArgumentException("Missing '=' separator");
+				}
+				mdcAdapter.setInheritance(rule.substring(0, separator).trim(), 
+						Inheritance.valueOf(rule.substring(separator + 1).trim().toUpperCase()));
+			} catch (IllegalArgumentException e) {
+				Reporter.error(String.format("Failed to set inheritance rule \"%s\" specified via \"%s\" system property", rule, INHERITANCE_PROPERTY_KEY), e);
+			}
+		}
+	}
+	
 	/**
 	 * Adopted from {@link org.slf4j.LoggerFactory} bind() method 
 	 */
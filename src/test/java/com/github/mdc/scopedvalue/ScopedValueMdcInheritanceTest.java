@@ -0,0 +1,138 @@
+package com.github.mdc.scopedvalue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+import com.github.mdc.scopevalue.support.Inheritance;
+import com.github.mdc.scopevalue.support.ScopedValueMdc;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, classes = MdcScopedValueApplication.class)
+public class ScopedValueMdcInheritanceTest extends ScopedValueMdcTestBase {
+	
+	private static final String DROPPED_PREFIX = "dropped.";
+	private static final String DROPPED_VALUE_NAME = DROPPED_PREFIX + "key";
+	private static final String KEPT_VALUE_NAME = DROPPED_PREFIX + "kept.key";
+	private static final String READ_ONLY_VALUE_NAME = "readOnlyKey";
+	private static final String SCOPE_ID_NAME = "scopeId";
+	
+	@AfterEach
+	public void resetInheritance() {
+		ScopedValueMdc.resetInheritance();
+		ScopedValueMdc.setScopeIdKey(null);
+		MDC.clear();
+		MDC.getMDCAdapter().clearDequeByKey(READ_ONLY_VALUE_NAME);
+	}
+
+	@Test
+	public void testDropByPrefix() throws Exception {
+		ScopedValueMdc.setInheritance(DROPPED_PREFIX + "*", Inheritance.DROP);
+		ScopedValueMdc.setInheritance(DROPPED_PREFIX + "kept.*", Inheritance.INHERIT);
+		MDC.put(ROOT_VALUE_NAME, ROOT_VALUE);
+		MDC.put(DROPPED_VALUE_NAME, ROOT_VALUE);
+		MDC.put(KEPT_VALUE_NAME, ROOT_VALUE);
+		MDC.pushByKey(DROPPED_VALUE_NAME, ROOT_VALUE);
+		
+		runForked( () -> {
+			assertMapsEqual(MDC.getCopyOfContextMap(), ROOT_VALUE_NAME, ROOT_VALUE, KEPT_VALUE_NAME, ROOT_VALUE);
+			Assertions.assertNull(MDC.popByKey(DROPPED_VALUE_NAME));
+			MDC.put(DROPPED_VALUE_NAME, SCOPED_VALUE);
+			Assertions.assertEquals(SCOPED_VALUE, MDC.get(DROPPED_VALUE_NAME));
+		});
+		
+		Assertions.assertEquals(ROOT_VALUE, MDC.get(DROPPED_VALUE_NAME));
+		Assertions.assertEquals(ROOT_VALUE, MDC.popByKey(DROPPED_VALUE_NAME));
+	}
+
+	@Test
+	public void testInheritReadOnly() throws Exception {
+		ScopedValueMdc.setInheritance(READ_ONLY_VALUE_NAME, Inheritance.INHERIT_READ_ONLY);
+		MDC.put(READ_ONLY_VALUE_NAME, ROOT_VALUE);
+		
+		runForked( () -> {
+			MDC.put(READ_ONLY_VALUE_NAME, SCOPED_VALUE);
+			MDC.remove(READ_ONLY_VALUE_NAME);
+			Assertions.assertEquals(ROOT_VALUE, MDC.get(READ_ONLY_VALUE_NAME));
+			MDC.put(SCOPED_VALUE_NAME, SCOPED_VALUE);
+			MDC.clear();
+			assertMapsEqual(MDC.getCopyOfContextMap(), READ_ONLY_VALUE_NAME, ROOT_VALUE);
+			MDC.setContextMap(toMap(READ_ONLY_VALUE_NAME, SCOPED_VALUE, SCOPED_VALUE_NAME, SCOPED_VALUE));
+			assertMapsEqual(MDC.getCopyOfContextMap(), READ_ONLY_VALUE_NAME, ROOT_VALUE, SCOPED_VALUE_NAME, SCOPED_VALUE);
+		});
+		
+		Assertions.assertEquals(ROOT_VALUE, MDC.get(READ_ONLY_VALUE_NAME));
+	}
+
+	@Test
+	public void testInheritDequeReadOnly() throws Exception {
+		ScopedValueMdc.setInheritance(READ_ONLY_VALUE_NAME, Inheritance.INHERIT_READ_ONLY);
+		MDC.pushByKey(READ_ONLY_VALUE_NAME, ROOT_VALUE);
+		
+		runForked( () -> {
+			MDC.pushByKey(READ_ONLY_VALUE_NAME, SCOPED_VALUE);
+			Assertions.assertNull(MDC.popByKey(READ_ONLY_VALUE_NAME));
+			MDC.getMDCAdapter().clearDequeByKey(READ_ONLY_VALUE_NAME);
+			Assertions.assertArrayEquals(new Object[] {ROOT_VALUE}, MDC.getMDCAdapter().getCopyOfDequeByKey(READ_ONLY_VALUE_NAME).toArray());
+			runForked( () -> 
+				Assertions.assertArrayEquals(new Object[] {ROOT_VALUE}, MDC.getMDCAdapter().getCopyOfDequeByKey(READ_ONLY_VALUE_NAME).toArray()));
+		});
+		
+		Assertions.assertEquals(ROOT_VALUE, MDC.popByKey(READ_ONLY_VALUE_NAME));
+	}
+
+	@Test
+	public void testReadOnlyValueDoesNotBlockDeque() throws Exception {
+		ScopedValueMdc.setInheritance(READ_ONLY_VALUE_NAME, Inheritance.INHERIT_READ_ONLY);
+		MDC.put(READ_ONLY_VALUE_NAME, ROOT_VALUE);
+		
+		runForked( () -> {
+			MDC.pushByKey(READ_ONLY_VALUE_NAME, SCOPED_VALUE);
+			Assertions.assertEquals(SCOPED_VALUE, MDC.popByKey(READ_ONLY_VALUE_NAME));
+			runForked( () -> {
+				MDC.put(READ_ONLY_VALUE_NAME, SCOPED_VALUE);
+				Assertions.assertEquals(ROOT_VALUE, MDC.get(READ_ONLY_VALUE_NAME));
+			});
+		});
+	}
+
+	@Test
+	public void testReadOnlyScopeIdKept() throws Exception {
+		ScopedValueMdc.setScopeIdKey(SCOPE_ID_NAME);
+		ScopedValueMdc.setInheritance(SCOPE_ID_NAME, Inheritance.INHERIT_READ_ONLY);
+		
+		ScopedValueMdc.runWhere( () -> {
+			final String scopeId = MDC.get(SCOPE_ID_NAME);
+			Assertions.assertNotNull(scopeId);
+			runForked( () -> {
+				Assertions.assertEquals(scopeId, MDC.get(SCOPE_ID_NAME));
+				MDC.put(SCOPE_ID_NAME, SCOPED_VALUE);
+				Assertions.assertEquals(scopeId, MDC.get(SCOPE_ID_NAME));
+			});
+		});
+	}
+
+	@Test
+	public void testReadOnlyInheritedAfterRulesReset() throws Exception {
+		ScopedValueMdc.setInheritance(READ_ONLY_VALUE_NAME, Inheritance.INHERIT_READ_ONLY);
+		MDC.put(READ_ONLY_VALUE_NAME, ROOT_VALUE);
+		MDC.pushByKey(READ_ONLY_VALUE_NAME, ROOT_VALUE);
+		
+		ScopedValueMdc.runWhere( () -> {
+			ScopedValueMdc.resetInheritance();
+			runForked( () -> {
+				assertMapsEqual(MDC.getCopyOfContextMap(), READ_ONLY_VALUE_NAME, ROOT_VALUE);
+				Assertions.assertArrayEquals(new Object[] {ROOT_VALUE}, MDC.getMDCAdapter().getCopyOfDequeByKey(READ_ONLY_VALUE_NAME).toArray());
+				// inherited by all the rules in force, so writable
+				MDC.put(READ_ONLY_VALUE_NAME, SCOPED_VALUE);
+				Assertions.assertEquals(SCOPED_VALUE, MDC.get(READ_ONLY_VALUE_NAME));
+			});
+			Assertions.assertEquals(ROOT_VALUE, MDC.get(READ_ONLY_VALUE_NAME));
+		});
+		
+		Assertions.assertEquals(ROOT_VALUE, MDC.popByKey(READ_ONLY_VALUE_NAME));
+	}
+
+}
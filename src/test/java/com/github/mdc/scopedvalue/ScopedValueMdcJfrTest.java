@@ -0,0 +1,143 @@
+package com.github.mdc.scopedvalue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+import com.github.mdc.scopevalue.support.Inheritance;
+import com.github.mdc.scopevalue.support.ScopedValueMdc;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, classes = MdcScopedValueApplication.class)
+public class ScopedValueMdcJfrTest extends ScopedValueMdcTestBase {
+	
+	private static final String SCOPE_EVENT = "com.github.mdc.scopevalue.Scope";
+	private static final String CONTEXT_SNAPSHOT_EVENT = "com.github.mdc.scopevalue.ContextSnapshot";
+	private static final String ROOT_CONTEXT_FALLBACK_EVENT = "com.github.mdc.scopevalue.RootContextFallback";
+	private static final String READ_ONLY_VALUE_NAME = "readOnlyKey";
+
+	@Test
+	public void testScopeEvents() throws Exception {
+		// a fresh thread has a root context free of the values and deques left by other tests
+		final List<RecordedEvent> events = record(true, () -> runOnFreshThread( () -> {
+			MDC.put(ROOT_VALUE_NAME, ROOT_VALUE);
+			runForked( () -> MDC.put(SCOPED_VALUE_NAME, SCOPED_VALUE));
+		}));
+		
+		final RecordedEvent scopeEvent = findEvent(events, SCOPE_EVENT);
+		Assertions.assertEquals(1, scopeEvent.getInt("depth"));
+		Assertions.assertEquals(1, scopeEvent.getInt("inheritedKeys"));
+		final RecordedEvent snapshotEvent = findEvent(events, CONTEXT_SNAPSHOT_EVENT);
+		Assertions.assertEquals(1, snapshotEvent.getInt("size"));
+		Assertions.assertEquals(2L * (ROOT_VALUE_NAME.length() + ROOT_VALUE.length()), snapshotEvent.getLong("bytes"));
+	}
+
+	@Test
+	public void testContextSnapshotEventsCountCopiesOnly() throws Exception {
+		ScopedValueMdc.setInheritance(READ_ONLY_VALUE_NAME, Inheritance.INHERIT_READ_ONLY);
+		final List<RecordedEvent> events;
+		try {
+			events = record(true, () -> runOnFreshThread( () -> {
+				MDC.put(ROOT_VALUE_NAME, ROOT_VALUE);
+				MDC.put(READ_ONLY_VALUE_NAME, ROOT_VALUE);
+				MDC.pushByKey(ROOT_VALUE_NAME, ROOT_VALUE);
+				runForked( () -> runForked( () -> MDC.put(SCOPED_VALUE_NAME, SCOPED_VALUE)));
+				MDC.popByKey(ROOT_VALUE_NAME);
+			}));
+		} finally {
+			ScopedValueMdc.resetInheritance();
+		}
+		
+		final List<Integer> sizes = events.stream()
+				.filter( (event) -> event.getEventType().getName().equals(CONTEXT_SNAPSHOT_EVENT))
+				.sorted(Comparator.comparing(RecordedEvent::getStartTime))
+				.map( (event) -> event.getInt("size"))
+				.toList();
+		// the root context is copied as a whole, the nested scope copies the inherited value only
+		Assertions.assertEquals(List.of(3, 1), sizes);
+	}
+
+	@Test
+	public void testNoRootContextFallbackEventOnScopeEntry() throws Exception {
+		final List<RecordedEvent> events = record(true, () -> {
+			try {
+				Thread.ofVirtual().start( () -> ScopedValueMdc.runWhere( () -> MDC.get(ROOT_VALUE_NAME))).join();
+			} catch (InterruptedException e) {
+				Assertions.fail("Unexpected interuption");
+			}
+		});
+		
+		Assertions.assertTrue(events.stream().noneMatch( (event) -> event.getEventType().getName().equals(ROOT_CONTEXT_FALLBACK_EVENT)));
+	}
+
+	@Test
+	public void testRootContextFallbackEvent() throws Exception {
+		final List<RecordedEvent> events = record(true, () -> {
+			try {
+				Thread.ofVirtual().start( () -> MDC.get(ROOT_VALUE_NAME)).join();
+			} catch (InterruptedException e) {
+				Assertions.fail("Unexpected interuption");
+			}
+		});
+		
+		Assertions.assertNotNull(findEvent(events, ROOT_CONTEXT_FALLBACK_EVENT).getStackTrace());
+	}
+
+	@Test
+	public void testDisabledByDefault() throws Exception {
+		final List<RecordedEvent> events = record(false, () -> runForked( () -> MDC.get(ROOT_VALUE_NAME)));
+		
+		Assertions.assertTrue(events.stream().noneMatch( (event) -> event.getEventType().getName().startsWith("com.github.mdc")));
+	}
+
+	private static List<RecordedEvent> record(boolean enabled, Runnable action) throws Exception {
+		final Path file = Files.createTempFile("mdc-scoped-value", ".jfr");
+		try (var recording = new Recording()) {
+			if (enabled) {
+				recording.enable(SCOPE_EVENT);
+				recording.enable(CONTEXT_SNAPSHOT_EVENT);
+				recording.enable(ROOT_CONTEXT_FALLBACK_EVENT);
+			}
+			recording.start();
+			action.run();
+			recording.stop();
+			recording.dump(file);
+			return RecordingFile.readAllEvents(file);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	private static void runOnFreshThread(Runnable action) {
+		final Throwable[] failure = new Throwable[1];
+		final Thread thread = new Thread(action);
+		thread.setUncaughtExceptionHandler( (t, e) -> failure[0] = e);
+		thread.start();
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Assertions.fail("Unexpected interuption");
+		}
+		if (failure[0] != null) {
+			throw new AssertionError(failure[0]);
+		}
+	}
+
+	private static RecordedEvent findEvent(List<RecordedEvent> events, String name) {
+		return events.stream()
+				.filter( (event) -> event.getEventType().getName().equals(name))
+				.findFirst()
+				.orElseThrow( () -> new AssertionError("No event " + name + " recorded"));
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.github.mdc.scopedvalue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+import com.github.mdc.scopevalue.support.Inheritance;
+import com.github.mdc.scopevalue.support.ScopedValueMdc;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, classes = MdcScopedValueApplication.class)
+public class ScopedValueMdcSamplingTest extends ScopedValueMdcTestBase {
+	
+	private static final String REQUEST_ID_NAME = "requestId";
+	
+	@AfterEach
+	public void resetSamplingRate() {
+		ScopedValueMdc.setSamplingRate(1);
+		ScopedValueMdc.resetInheritance();
+	}
+
+	@Test
+	public void testSampledOutScope() throws Exception {
+		ScopedValueMdc.setSamplingRate(0);
+		
+		ScopedValueMdc.runWhere(REQUEST_ID_NAME, "sampledOut", () -> {
+			Assertions.assertFalse(ScopedValueMdc.isSampled());
+			runForked( () -> {
+				Assertions.assertFalse(ScopedValueMdc.isSampled());
+				log.info("dropped");
+				log.warn("kept");
+			});
+			Assertions.assertEquals(1, ScopedValueMdc.getDroppedEventCount());
+		});
+		
+		Assertions.assertTrue(ScopedValueMdc.isSampled());
+		Assertions.assertEquals(0, ScopedValueMdc.getDroppedEventCount());
+	}
+
+	@Test
+	public void testDecisionKeptWhenSamplingKeyDropped() throws Exception {
+		ScopedValueMdc.setSamplingRate(0);
+		ScopedValueMdc.setInheritance(REQUEST_ID_NAME, Inheritance.DROP);
+		
+		ScopedValueMdc.runWhere(REQUEST_ID_NAME, "sampledOut", () -> {
+			runForked( () -> {
+				Assertions.assertNull(MDC.get(REQUEST_ID_NAME));
+				Assertions.assertFalse(ScopedValueMdc.isSampled());
+				log.info("dropped");
+			});
+			Assertions.assertEquals(1, ScopedValueMdc.getDroppedEventCount());
+		});
+	}
+
+	@Test
+	public void testSampledInScope() throws Exception {
+		ScopedValueMdc.runWhere(REQUEST_ID_NAME, "sampledIn", () -> {
+			runForked( () -> {
+				Assertions.assertTrue(ScopedValueMdc.isSampled());
+				log.info("kept");
+			});
+			Assertions.assertEquals(0, ScopedValueMdc.getDroppedEventCount());
+		});
+	}
+
+	@Test
+	public void testDeterministicDecision() throws Exception {
+		ScopedValueMdc.setSamplingRate(0.5);
+		
+		int sampled = 0;
+		for (int i = 0; i < 1000; i++) {
+			final String requestId = "request-" + i;
+			final boolean[] decisions = new boolean[2];
+			ScopedValueMdc.runWhere(REQUEST_ID_NAME, requestId, () -> decisions[0] = ScopedValueMdc.isSampled());
+			ScopedValueMdc.runWhere(REQUEST_ID_NAME, requestId, () -> decisions[1] = ScopedValueMdc.isSampled());
+			Assertions.assertEquals(decisions[0], decisions[1]);
+			if (decisions[0]) {
+				sampled++;
+			}
+		}
+		Assertions.assertTrue(sampled > 400 && sampled < 600, "Sampled " + sampled + " of 1000");
+	}
+
+}
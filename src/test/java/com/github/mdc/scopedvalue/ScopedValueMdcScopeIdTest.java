@@ -0,0 +1,103 @@
+package com.github.mdc.scopedvalue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+import com.github.mdc.scopevalue.support.Inheritance;
+import com.github.mdc.scopevalue.support.ScopedValueMdc;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, classes = MdcScopedValueApplication.class)
+public class ScopedValueMdcScopeIdTest extends ScopedValueMdcTestBase {
+	
+	private static final String SCOPE_ID_NAME = "scopeId";
+	
+	@AfterEach
+	public void resetScopeIdKey() {
+		ScopedValueMdc.setScopeIdKey(null);
+		ScopedValueMdc.resetInheritance();
+	}
+
+	@Test
+	public void testScopeAndSpanIds() throws Exception {
+		ScopedValueMdc.setScopeIdKey(SCOPE_ID_NAME);
+		
+		ScopedValueMdc.runWhere( () -> {
+			final String scopeId = MDC.get(SCOPE_ID_NAME);
+			final String spanId = MDC.get(ScopedValueMdc.SPAN_ID_KEY);
+			Assertions.assertNotNull(scopeId);
+			Assertions.assertNotNull(spanId);
+			Assertions.assertNull(MDC.get(ScopedValueMdc.PARENT_SPAN_ID_KEY));
+			// span IDs carry the node ID of the scope ID, so that they do not collide across nodes
+			Assertions.assertEquals(scopeId.substring(12, 20), spanId.substring(0, 8));
+			
+			runForked( () -> {
+				Assertions.assertEquals(scopeId, MDC.get(SCOPE_ID_NAME));
+				Assertions.assertEquals(spanId, MDC.get(ScopedValueMdc.PARENT_SPAN_ID_KEY));
+				Assertions.assertNotEquals(spanId, MDC.get(ScopedValueMdc.SPAN_ID_KEY));
+			});
+			
+			Assertions.assertEquals(spanId, MDC.get(ScopedValueMdc.SPAN_ID_KEY));
+		});
+		
+		Assertions.assertNull(MDC.get(SCOPE_ID_NAME));
+		Assertions.assertNull(MDC.get(ScopedValueMdc.SPAN_ID_KEY));
+	}
+
+	@Test
+	public void testSpanChainIgnoresInheritanceRules() throws Exception {
+		ScopedValueMdc.setScopeIdKey(SCOPE_ID_NAME);
+		ScopedValueMdc.setInheritance(ScopedValueMdc.SPAN_ID_KEY, Inheritance.DROP);
+		
+		ScopedValueMdc.runWhere( () -> {
+			final String spanId = MDC.get(ScopedValueMdc.SPAN_ID_KEY);
+			
+			runForked( () -> {
+				Assertions.assertEquals(spanId, MDC.get(ScopedValueMdc.PARENT_SPAN_ID_KEY));
+				Assertions.assertNotNull(MDC.get(ScopedValueMdc.SPAN_ID_KEY));
+				Assertions.assertNotEquals(spanId, MDC.get(ScopedValueMdc.SPAN_ID_KEY));
+			});
+		});
+	}
+
+	@Test
+	public void testExplicitScopeIdKept() throws Exception {
+		ScopedValueMdc.setScopeIdKey(SCOPE_ID_NAME);
+		
+		ScopedValueMdc.runWhere(SCOPE_ID_NAME, SCOPED_VALUE, () -> {
+			Assertions.assertEquals(SCOPED_VALUE, MDC.get(SCOPE_ID_NAME));
+			Assertions.assertNotNull(MDC.get(ScopedValueMdc.SPAN_ID_KEY));
+		});
+	}
+
+	@Test
+	public void testNoScopeIdByDefault() throws Exception {
+		runForked( () -> {
+			Assertions.assertNull(MDC.get(SCOPE_ID_NAME));
+			Assertions.assertNull(MDC.get(ScopedValueMdc.SPAN_ID_KEY));
+		});
+	}
+
+	@Test
+	public void testUniqueScopeIds() throws Exception {
+		final Set<String> ids = ConcurrentHashMap.newKeySet();
+		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < 100; i++) {
+				executor.submit( () -> {
+					for (int j = 0; j < 1000; j++) {
+						ids.add(ScopedValueMdc.newScopeId());
+					}
+				});
+			}
+		}
+		Assertions.assertEquals(100_000, ids.size());
+	}
+
+}
@@ -0,0 +1,421 @@
+package com.github.mdc.scopedvalue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Subtask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+import com.github.mdc.scopevalue.support.ScopedValueMdc;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+
+/**
+ * Runs many concurrent scopes on virtual threads, each doing randomized MDC operations against a model of its expected context.
+ * A scope forks subtasks which either open a nested scope, or change the enclosing scope directly,
+ * while the scope itself keeps changing its context.
+ * Every log event carries the expected context as its argument, which {@link IsolationCheckingAppender}
+ * compares with the MDC captured by the event.
+ *
+ * <br/><br/>The suite is opt-in, it runs only with {@code -Dstress=true}, for example,
+ * {@code mvn test -Dstress=true -Dtest=ScopedValueMdcStressTest}.
+ * Its load is scaled by system properties {@code stress.scopes}, {@code stress.fanout} and {@code stress.live.scopes}.
+ */
+@EnabledIfSystemProperty(named = "stress", matches = "true")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, classes = MdcScopedValueApplication.class)
+public class ScopedValueMdcStressTest extends ScopedValueMdcTestBase {
+
+	private static final int SCOPES = Integer.getInteger("stress.scopes", 200);
+	private static final int FAN_OUT = Integer.getInteger("stress.fanout", 100_000);
+	private static final int LIVE_SCOPES = Integer.getInteger("stress.live.scopes", 1_000);
+	private static final int MAX_DEPTH = 3;
+	private static final int MAX_FORKS = 8;
+	private static final int OPERATIONS = 20;
+	private static final String[] KEYS = {"k0", "k1", "k2", "k3", "k4", "k5", "k6", "k7"};
+	private static final String[] DEQUE_KEYS = {"d0", "d1", "d2", "d3"};
+
+	/**
+	 * Expected MDC of a log event. Only {@code keys} are compared, or the whole map if {@code keys} is {@code null}.
+	 */
+	private record Expected(Map<String, String> values, Set<String> keys) {
+
+		boolean matches(Map<String, String> actual) {
+			if (keys == null) {
+				return values.equals(actual);
+			}
+			return keys.stream().allMatch( (key) -> Objects.equals(values.get(key), actual.get(key)));
+		}
+	}
+
+	/**
+	 * Fails the events, which MDC differs from the {@link Expected} context passed as the first argument
+	 */
+	private static class IsolationCheckingAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+		private final LongAdder checked = new LongAdder();
+		private final Queue<String> violations = new ConcurrentLinkedQueue<>();
+
+		@Override
+		protected void append(ILoggingEvent event) {
+			checked.increment();
+			final Expected expected = (Expected) event.getArgumentArray()[0];
+			if (!expected.matches(event.getMDCPropertyMap()) && violations.size() < 10) {
+				violations.add("Expected " + expected + ", actual " + event.getMDCPropertyMap());
+			}
+		}
+	}
+
+	/**
+	 * Expected MDC context of a scope or of a subtask, changing the enclosing scope directly.
+	 * Only the {@link #keys} and {@link #dequeKeys} are changed and checked.
+	 * The whole context is checked, and may be cleared, only if it is {@link #exclusive},
+	 * i.e. no subtask changes it concurrently.
+	 */
+	private static class Model {
+
+		private final Map<String, String> values;
+		private final Map<String, Deque<String>> deques = new HashMap<>();
+		private final String[] keys;
+		private final String[] dequeKeys;
+		private boolean exclusive;
+
+		Model(Map<String, String> values, String[] keys, String[] dequeKeys, boolean exclusive) {
+			this.values = new HashMap<>(values);
+			this.keys = keys;
+			this.dequeKeys = dequeKeys;
+			this.exclusive = exclusive;
+		}
+
+		/**
+		 * @return model of a nested scope, inheriting the current MDC context, whatever its version is
+		 */
+		static Model ofCurrentContext() {
+			final Model model = new Model(MDC.getCopyOfContextMap(), KEYS, DEQUE_KEYS, true);
+			for (String dequeKey : DEQUE_KEYS) {
+				final Deque<String> deque = MDC.getMDCAdapter().getCopyOfDequeByKey(dequeKey);
+				if (deque != null && !deque.isEmpty()) {
+					model.deques.put(dequeKey, deque);
+				}
+			}
+			return model;
+		}
+
+		/**
+		 * @return model of a subtask, changing the enclosing scope directly, under its own keys
+		 */
+		static Model ofSharedScope(String prefix) {
+			final String[] keys = Arrays.stream(KEYS).limit(4).map( (key) -> prefix + key).toArray(String[]::new);
+			final String[] dequeKeys = Arrays.stream(DEQUE_KEYS).limit(2).map( (key) -> prefix + key).toArray(String[]::new);
+			return new Model(Map.of(), keys, dequeKeys, false);
+		}
+
+		/**
+		 * Takes over the final state of the keys of a subtask, which changed this scope directly
+		 */
+		void merge(Model subtask) {
+			for (String key : subtask.keys) {
+				final String value = subtask.values.get(key);
+				if (value != null) {
+					values.put(key, value);
+				} else {
+					values.remove(key);
+				}
+			}
+			for (String dequeKey : subtask.dequeKeys) {
+				final Deque<String> deque = subtask.deques.get(dequeKey);
+				if (deque != null && !deque.isEmpty()) {
+					deques.put(dequeKey, deque);
+				}
+			}
+		}
+
+		Expected expected() {
+			return new Expected(new HashMap<>(values), exclusive ? null : new HashSet<>(Arrays.asList(keys)));
+		}
+	}
+
+	private final org.slf4j.Logger stressLog = LoggerFactory.getLogger("stress");
+	private final IsolationCheckingAppender appender = new IsolationCheckingAppender();
+	private final LongAdder operations = new LongAdder();
+	private final AtomicLong sharedScopeSubtasks = new AtomicLong();
+	private Logger stressLogger;
+
+	@BeforeEach
+	public void attachAppender() {
+		final LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+		stressLogger = loggerContext.getLogger(stressLog.getName());
+		appender.setContext(loggerContext);
+		appender.start();
+		stressLogger.addAppender(appender);
+		stressLogger.setAdditive(false);
+		MDC.clear();
+	}
+
+	@AfterEach
+	public void detachAppender() {
+		stressLogger.detachAppender(appender);
+		stressLogger.setAdditive(true);
+		appender.stop();
+	}
+
+	@Test
+	public void testConcurrentNestedScopes() throws Exception {
+		final long start = System.nanoTime();
+		final List<Future<?>> scopes = new ArrayList<>();
+		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < SCOPES; i++) {
+				final String scope = "scope" + i;
+				scopes.add(executor.submit( () -> {
+					MDC.put(KEYS[0], scope);
+					ScopedValueMdc.runWhere( () -> runScope(Model.ofCurrentContext(), 0));
+					return null;
+				}));
+			}
+		}
+		for (Future<?> scope : scopes) {
+			scope.get();
+		}
+		report("Concurrent nested scopes", start);
+	}
+
+	@Test
+	public void testVirtualThreadFanOut() throws Exception {
+		final long start = System.nanoTime();
+		ScopedValueMdc.runWhere( () -> {
+			MDC.put(KEYS[0], ROOT_VALUE);
+			MDC.pushByKey(DEQUE_KEYS[0], ROOT_VALUE);
+			try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+				for (int i = 0; i < FAN_OUT; i++) {
+					final String value = "fork" + i;
+					if (i % 2 == 0) {
+						scope.fork( () -> {
+							ScopedValueMdc.runWhere( () -> {
+								MDC.put(KEYS[1], value);
+								MDC.pushByKey(DEQUE_KEYS[0], value);
+								stressLog.info("fork", new Expected(Map.of(KEYS[0], ROOT_VALUE, KEYS[1], value), null));
+								Assertions.assertEquals(value, MDC.popByKey(DEQUE_KEYS[0]));
+								Assertions.assertEquals(ROOT_VALUE, MDC.popByKey(DEQUE_KEYS[0]));
+							});
+							operations.add(5);
+							return null;
+						});
+					} else {
+						// changes the enclosing scope directly, concurrently with its siblings
+						scope.fork( () -> {
+							MDC.put(value, value);
+							stressLog.info("fork", new Expected(Map.of(KEYS[0], ROOT_VALUE, value, value), Set.of(KEYS[0], value)));
+							Assertions.assertEquals(value, MDC.get(value));
+							MDC.remove(value);
+							operations.add(4);
+							return null;
+						});
+					}
+				}
+				scope.join().throwIfFailed();
+			} catch (InterruptedException | ExecutionException e) {
+				throw new AssertionError(e);
+			}
+			Assertions.assertEquals(Map.of(KEYS[0], ROOT_VALUE), MDC.getCopyOfContextMap());
+			Assertions.assertArrayEquals(new Object[] {ROOT_VALUE}, MDC.getMDCAdapter().getCopyOfDequeByKey(DEQUE_KEYS[0]).toArray());
+		});
+		report("Virtual thread fan-out", start);
+	}
+
+	@Test
+	public void testHeapPerLiveScope() throws Exception {
+		final CountDownLatch opened = new CountDownLatch(LIVE_SCOPES);
+		final CountDownLatch close = new CountDownLatch(1);
+		final AtomicLong mismatches = new AtomicLong();
+		final long heapBefore = usedHeap();
+		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < LIVE_SCOPES; i++) {
+				final String value = "live" + i;
+				executor.submit( () -> {
+					ScopedValueMdc.runWhere( () -> {
+						for (String key : KEYS) {
+							MDC.put(key, value);
+						}
+						opened.countDown();
+						try {
+							close.await();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						if (!value.equals(MDC.get(KEYS[KEYS.length - 1]))) {
+							mismatches.incrementAndGet();
+						}
+					});
+					return null;
+				});
+			}
+			opened.await();
+			final long heapPerScope = (usedHeap() - heapBefore) / LIVE_SCOPES;
+			log.info("Heap per live scope with {} keys, including its virtual thread: {} bytes", KEYS.length, heapPerScope);
+			close.countDown();
+		}
+		Assertions.assertEquals(0, mismatches.get());
+	}
+
+	/**
+	 * Runs random operations in the current scope, checking them against {@code model}.
+	 * Then forks subtasks, each either opening a nested scope or changing this scope directly under its own keys,
+	 * and keeps changing this scope until they finish.
+	 * When the subtasks finish, the context of this scope is expected to contain only its own changes
+	 * and the changes of the subtasks, which changed it directly.
+	 */
+	private void runScope(Model model, int depth) {
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+		runOperations(model, random);
+		if (depth < MAX_DEPTH) {
+			final List<Subtask<Model>> sharedScopeForks = new ArrayList<>();
+			try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+				model.exclusive = false;
+				final int forks = random.nextInt(MAX_FORKS) + 1;
+				final CountDownLatch finished = new CountDownLatch(forks);
+				for (int i = 0; i < forks; i++) {
+					if (random.nextBoolean()) {
+						scope.fork( () -> {
+							try {
+								ScopedValueMdc.runWhere( () -> runScope(Model.ofCurrentContext(), depth + 1));
+							} finally {
+								finished.countDown();
+							}
+							return null;
+						});
+					} else {
+						final Model forkModel = Model.ofSharedScope("f" + sharedScopeSubtasks.incrementAndGet() + ".");
+						sharedScopeForks.add(scope.fork( () -> {
+							try {
+								runOperations(forkModel, ThreadLocalRandom.current());
+								assertContext(forkModel);
+							} finally {
+								finished.countDown();
+							}
+							return forkModel;
+						}));
+					}
+				}
+				do {
+					runOperations(model, random);
+					Thread.yield();
+				} while (finished.getCount() > 0);
+				scope.join().throwIfFailed();
+			} catch (InterruptedException | ExecutionException e) {
+				throw new AssertionError(e);
+			}
+			sharedScopeForks.forEach( (fork) -> model.merge(fork.get()));
+			model.exclusive = true;
+		}
+		assertContext(model);
+		stressLog.info("scope", model.expected());
+	}
+
+	private void runOperations(Model model, ThreadLocalRandom random) {
+		for (int i = 0; i < OPERATIONS; i++) {
+			runOperation(model, random);
+		}
+	}
+
+	private void runOperation(Model model, ThreadLocalRandom random) {
+		final String key = model.keys[random.nextInt(model.keys.length)];
+		final String dequeKey = model.dequeKeys[random.nextInt(model.dequeKeys.length)];
+		final String value = Long.toHexString(random.nextLong());
+		switch (random.nextInt(10)) {
+		case 0, 1, 2 -> {
+			MDC.put(key, value);
+			model.values.put(key, value);
+		}
+		case 3 -> {
+			MDC.remove(key);
+			model.values.remove(key);
+		}
+		case 4, 5 -> {
+			MDC.pushByKey(dequeKey, value);
+			model.deques.computeIfAbsent(dequeKey, (k) -> new LinkedList<>()).push(value);
+		}
+		case 6 -> {
+			final Deque<String> deque = model.deques.get(dequeKey);
+			Assertions.assertEquals(deque != null ? deque.pollFirst() : null, MDC.popByKey(dequeKey));
+		}
+		case 7 -> {
+			if (model.exclusive) {
+				final Map<String, String> contextMap = Map.of(key, value);
+				MDC.setContextMap(contextMap);
+				model.values.clear();
+				model.values.putAll(contextMap);
+			}
+		}
+		case 8 -> {
+			if (model.exclusive && random.nextInt(4) == 0) {
+				MDC.clear();
+				model.values.clear();
+			}
+		}
+		default -> stressLog.info("operation", model.expected());
+		}
+		Assertions.assertEquals(model.values.get(key), MDC.get(key));
+		operations.increment();
+	}
+
+	private static void assertContext(Model model) {
+		if (model.exclusive) {
+			Assertions.assertEquals(model.values, MDC.getCopyOfContextMap());
+		} else {
+			for (String key : model.keys) {
+				Assertions.assertEquals(model.values.get(key), MDC.get(key), "Value " + key);
+			}
+		}
+		for (String dequeKey : model.dequeKeys) {
+			final Deque<String> expected = model.deques.getOrDefault(dequeKey, new LinkedList<>());
+			final Deque<String> actual = MDC.getMDCAdapter().getCopyOfDequeByKey(dequeKey);
+			Assertions.assertEquals(new ArrayList<>(expected), actual != null ? new ArrayList<>(actual) : List.of(),
+					"Deque " + dequeKey);
+		}
+	}
+
+	private void report(String name, long start) {
+		final long nanos = System.nanoTime() - start;
+		final long events = appender.checked.sum();
+		log.info("{}: {} operations, {} events checked, {} ops/sec", name, operations.sum(), events,
+				operations.sum() * 1_000_000_000L / Math.max(nanos, 1));
+		Assertions.assertTrue(events > 0, "No events checked");
+		Assertions.assertTrue(appender.violations.isEmpty(), () -> String.join("\n", appender.violations));
+	}
+
+	private static long usedHeap() throws InterruptedException {
+		System.gc();
+		Thread.sleep(100);
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+}